@@ -17,10 +17,9 @@
 package mirahparser.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.LinkedList;
-import java.util.ListIterator;
-import java.util.logging.Logger;
 
 import mmeta.BaseParser;
 import mmeta.BaseParser.Token;
@@ -28,8 +27,6 @@ import mmeta.SyntaxError;
 
 public class MirahLexer {
 
-  private static final Logger logger = Logger.getLogger(MirahLexer.class.getName());
-
   private static final int EOF = -1;
 
   public interface Input {
@@ -1290,16 +1287,12 @@ public class MirahLexer {
 
   public Token<Tokens> lex(int pos, boolean skipWhitespaceAndComments, boolean skipJavaDocs) {
       if (pos < input.pos()) {
-          ListIterator<Token<Tokens>> it = tokens.listIterator(tokens.size());
-          while (it.hasPrevious()) {
-              Token<Tokens> savedToken = it.previous();
-              if (pos >= savedToken.pos && pos <= savedToken.startpos) {
-                  logger.fine("Warning, uncached token " + savedToken.type + " at " + pos);
-                  parser._pos = savedToken.endpos;
-                  return savedToken;
-              }
+          Token<Tokens> savedToken = savedToken(pos);
+          if (savedToken == null) {
+              throw new IllegalArgumentException("" + pos + " < " + input.pos());
           }
-          throw new IllegalArgumentException("" + pos + " < " + input.pos());
+          parser._pos = savedToken.endpos;
+          return savedToken;
       } else if (!input.hasNext()) {
           return parser.build_token(state.hereDocs.isEmpty() ? Tokens.tEOF : Tokens.tHereDocBegin, pos, pos);
       }
@@ -1320,9 +1313,38 @@ public class MirahLexer {
 
       parser._pos = input.pos();
       Token<Tokens> token = parser.build_token(type, pos, start);
-      tokens.add(token);
+      saveToken(token);
       return token;
   }
+
+  private void saveToken(Token<Tokens> token) {
+      if (tokens.size() == tokenPositions.length) {
+          tokenPositions = Arrays.copyOf(tokenPositions, tokenPositions.length * 2);
+      }
+      tokenPositions[tokens.size()] = token.pos;
+      tokens.add(token);
+  }
+
+  // Finds the token already lexed at pos, for when the parser backtracks.
+  // Tokens are saved in input order and their ranges never overlap, so only
+  // the last one lexed from at or before pos can cover it.
+  private Token<Tokens> savedToken(int pos) {
+      int low = 0;
+      int high = tokens.size() - 1;
+      while (low <= high) {
+          int mid = (low + high) >>> 1;
+          if (tokenPositions[mid] <= pos) {
+              low = mid + 1;
+          } else {
+              high = mid - 1;
+          }
+      }
+      if (high < 0) {
+          return null;
+      }
+      Token<Tokens> savedToken = tokens.get(high);
+      return pos <= savedToken.startpos ? savedToken : null;
+  }
   
   void noteNewline() {
     if (parser != null) {
@@ -1392,6 +1414,7 @@ public class MirahLexer {
   private BaseParser parser;
   private State state;
   private ArrayList<Token<Tokens>> tokens = new ArrayList<Token<Tokens>>();
+  private int[] tokenPositions = new int[256];  // tokens.get(i).pos
   private EnumSet<Tokens> beginTokens;
   private EnumSet<Tokens> argTokens;
   private EnumSet<Tokens> endTokens;
@@ -54,4 +54,21 @@ class TestLexer < Test::Unit::TestCase
     
 
   end
+
+  def test_backtracking_returns_saved_tokens
+    text = (0...300).map { |i| "foo#{i} = #{i}\n" }.join
+    parser = MirahParser.new
+    parser.init(text)
+    lexer = MirahLexer.new parser._string, parser._chars, parser
+    tokens = []
+    pos = 0
+    while (token = lexer.lex(pos)).type != Tokens::tEOF
+      tokens << token
+      pos = token.endpos
+    end
+    tokens.reverse_each do |token|
+      assert_same token, lexer.lex(token.pos)
+      assert_same token, lexer.lex(token.startpos)
+    end
+  end
 end
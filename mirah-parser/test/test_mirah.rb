@@ -1049,4 +1049,43 @@ EOF
                  '/** jdoc */ macro def a;end'
     end
   end
+
+  def body_positions(script)
+    (0...script.body.size).map { |i| node = script.body.get(i); PositionalAstPrinter.new.scan(node, node) }
+  end
+
+  def test_reparse_keeps_unedited_definitions
+    text = "def a\n  1\nend\ndef b\n  2\nend\nputs b\ndef c\n  3\nend\n"
+    script = parse(text)
+    a = script.body.get(0)
+    c = script.body.get(3)
+    start = text.index("2")
+    result = MirahParser.new.reparse(script, start, 1, "x + 20")
+    edited = text.sub("2", "x + 20")
+
+    full = parse(edited)
+    assert_equal body_positions(full), body_positions(result.script)
+    assert_same a, result.script.body.get(0)
+    assert_same c, result.script.body.get(3)
+    assert_equal edited, c.position.source.contents
+    assert_equal edited.index("def c"), c.position.startChar
+    assert_equal 2, result.replaced.size
+    assert_equal 2, result.added.size
+  end
+
+  def test_reparse_doc_comment_of_kept_definition
+    text = "def a\n  1\nend\n/** old */\ndef b\n  2\nend\n"
+    script = parse(text) { |parser| parser.skip_java_doc false }
+    a = script.body.get(0)
+    reparser = MirahParser.new
+    reparser.skip_java_doc false
+    result = reparser.reparse(script, text.index("old"), 3, "new docs")
+    edited = text.sub("old", "new docs")
+
+    full = parse(edited) { |parser| parser.skip_java_doc false }
+    assert_equal body_positions(full), body_positions(result.script)
+    assert_match(/new docs/, result.script.body.get(1).java_doc.value)
+    assert_same a, result.script.body.get(0)
+    assert_equal 1, result.added.size
+  end
 end
@@ -0,0 +1,10 @@
+package org.mirah.jvm.types;
+
+import java.lang.annotation.*;
+
+// Marks a method whose self calls in tail position should be compiled
+// as jumps. Added by the tailrec macro; only read by the compiler.
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface TailRecursive {
+}
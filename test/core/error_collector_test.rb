@@ -0,0 +1,44 @@
+# Copyright (c) 2013 The Mirah project authors. All Rights Reserved.
+# All contributing project authors may be found in the NOTICE file.
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#      http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+require 'test_helper'
+
+class ErrorCollectorTest < Test::Unit::TestCase
+  java_import 'org.mirah.tool.ErrorCollector'
+  java_import 'mirah.lang.ast.PositionImpl'
+  java_import 'mirah.lang.ast.SimpleString'
+  java_import 'mirah.lang.ast.StringCodeSource'
+
+  def node_at(source, start_char, end_char)
+    SimpleString.new(PositionImpl.new(source, start_char, 1, 1, end_char, 1, 1), "x")
+  end
+
+  def test_nodes_are_ordered_by_source_before_position
+    a = StringCodeSource.new("a.mirah", "")
+    b = StringCodeSource.new("b.mirah", "")
+    early_in_b = node_at(b, 0, 1)
+    late_in_a = node_at(a, 50, 60)
+    assert ErrorCollector.compareSourceOrder(late_in_a, early_in_b) < 0
+    assert ErrorCollector.compareSourceOrder(early_in_b, late_in_a) > 0
+  end
+
+  def test_nodes_in_one_source_are_ordered_by_end_then_innermost
+    a = StringCodeSource.new("a.mirah", "")
+    inner = node_at(a, 5, 10)
+    outer = node_at(a, 0, 10)
+    later = node_at(a, 11, 12)
+    assert ErrorCollector.compareSourceOrder(inner, outer) < 0
+    assert ErrorCollector.compareSourceOrder(outer, later) < 0
+  end
+end
@@ -46,6 +46,27 @@ class JvmVersionTest < Test::Unit::TestCase
     assert !jvm_version.supports_default_interface_methods
   end
 
+  def test_java_9_supports_indy_string_concat
+    jvm_version = JvmVersion.new "9"
+    assert_equal 53, jvm_version.bytecode_version
+    assert jvm_version.supports_indy_string_concat
+    assert !JvmVersion.new("1.8").supports_indy_string_concat
+  end
+
+  def test_java_11_supports_nestmates
+    assert_equal [55, 61, 65], %w[11 17 21].map { |v| JvmVersion.new(v).bytecode_version }
+    assert JvmVersion.new("11").supports_nestmates
+    assert !JvmVersion.new("10").supports_nestmates
+  end
+
+  def test_default_ignores_hosts_newer_than_java_8
+    host_version = java.lang.System.getProperty('java.specification.version')
+    java.lang.System.setProperty('java.specification.version', '11')
+    assert_raise(java.lang.IllegalArgumentException) { JvmVersion.new }
+  ensure
+    java.lang.System.setProperty('java.specification.version', host_version)
+  end
+
   def opcode spec_version
     Opcodes.const_get("V#{spec_version.sub('.','_')}")
   end
@@ -915,6 +915,130 @@ class BlocksTest < Test::Unit::TestCase
   end
 
 
+  def test_interface_block_uses_lambda_metafactory_on_java_8
+    omit_if ENV_JAVA['java.specification.version'] =~ /^1\.[0-7]$/
+    classes = compile(<<-'EOF', java_version: '1.8')
+      def create(a: Runnable):void
+        a.run
+      end
+      loc = 1
+      create do
+        puts "test #{loc}"
+        loc += 1
+      end
+      create { puts "after #{loc}" }
+    EOF
+    class_names = classes.map(&:java_class).map(&:name)
+    assert !class_names.find { |c| c.include? 'Closure' },
+      "generated classes: #{class_names} shouldn't contain closure classes."
+    assert_run_output("test 1\nafter 2\n", classes.first)
+  end
+
+  def test_abstract_class_block_keeps_closure_class_on_java_8
+    omit_if ENV_JAVA['java.specification.version'] =~ /^1\.[0-7]$/
+    classes = compile(<<-'EOF', java_version: '1.8')
+      import java.util.TimerTask
+      def create(a: TimerTask):void
+        a.run
+      end
+      create { puts "timer" }
+    EOF
+    class_names = classes.map(&:java_class).map(&:name)
+    assert class_names.find { |c| c.include? 'Closure' },
+      "generated classes: #{class_names} should contain a closure class."
+  end
+
+  def test_non_capturing_closure_is_created_once
+    classes = compile(<<-'EOF', java_version: '1.7')
+      def create(a: Runnable):Runnable
+        a
+      end
+      def same:boolean
+        runnables = []
+        2.times { |i| runnables.add create { puts "run" } }
+        runnables[0] == runnables[1]
+      end
+      puts same
+    EOF
+    assert_run_output("true\n", classes.first)
+  end
+
+  def test_non_capturing_abstract_class_closure_is_created_each_time
+    classes = compile(<<-'EOF', java_version: '1.7')
+      import java.util.Timer
+      import java.util.TimerTask
+      def create(a: TimerTask):TimerTask
+        a
+      end
+      def distinct:boolean
+        timer = Timer.new(true)
+        tasks = []
+        2.times { |i| tasks.add create { puts "run" } }
+        tasks.each { |t| timer.schedule(TimerTask(t), long(60000)) }
+        timer.cancel
+        tasks[0] != tasks[1]
+      end
+      puts distinct
+    EOF
+    assert_run_output("true\n", classes.first)
+  end
+
+  def test_captured_fields_skip_bridges_on_java_11
+    omit_if ENV_JAVA['java.specification.version'] =~ /^(1\.\d|9|10)$/
+    classes = compile(<<-'EOF', java_version: '11')
+      import java.util.TimerTask
+      class Counter
+        def initialize; @count = 0; end
+        def run(a: TimerTask):void
+          a.run
+        end
+        def count
+          run { @count += 2 }
+          @count
+        end
+      end
+    EOF
+    counter = classes.find { |c| c.java_class.name == 'Counter' }
+    method_names = counter.java_class.declared_instance_methods.map(&:name)
+    assert !method_names.find { |m| m.start_with? 'z_' },
+      "Counter methods: #{method_names} shouldn't contain field bridges."
+    assert_equal 2, counter.new.count
+  end
+
+  def test_covariant_interface_block_gets_bridges_on_java_8
+    omit_if ENV_JAVA['java.specification.version'] =~ /^1\.[0-7]$/
+    classes = compile(<<-'EOF', java_version: '1.8')
+      interface ObjectSource
+        def get:Object; end
+      end
+      interface StringSource < ObjectSource
+        def get:String; end
+      end
+      def show(a: StringSource):void
+        puts a.get
+        puts ObjectSource(a).get
+      end
+      show { "covariant" }
+    EOF
+    class_names = classes.map(&:java_class).map(&:name)
+    assert !class_names.find { |c| c.include? 'Closure' },
+      "generated classes: #{class_names} shouldn't contain closure classes."
+    assert_run_output("covariant\ncovariant\n", classes.first)
+  end
+
+  def test_lambda_captures_multi_dimensional_array_on_java_8
+    omit_if ENV_JAVA['java.specification.version'] =~ /^1\.[0-7]$/
+    classes = compile(<<-'EOF', java_version: '1.8')
+      def create(a: Runnable):void
+        a.run
+      end
+      import java.text.DateFormatSymbols
+      zones = DateFormatSymbols.getInstance.getZoneStrings
+      create { puts zones[0].length > 0 }
+    EOF
+    assert_run_output("true\n", classes.first)
+  end
+
   def test_binding_in_class_definition_has_right_namespace
     classes = compile(<<-'EOF')
       package test
@@ -925,6 +1049,7 @@ class BlocksTest < Test::Unit::TestCase
         def with_binding
           loc = 1
           create do
+            loc += 1
             puts "test #{loc}"
           end
         end
@@ -945,6 +1070,7 @@ class BlocksTest < Test::Unit::TestCase
       def with_binding
         loc = 1
         create do
+          loc += 1
           puts "test #{loc}"
         end
       end
@@ -956,6 +1082,45 @@ class BlocksTest < Test::Unit::TestCase
       "generated classes: #{class_names} didn't contain #{pattern}."
   end
 
+  def test_effectively_final_captures_are_copied_without_binding
+    classes = compile(<<-'EOF')
+      def create(a: Runnable):void
+        a.run
+      end
+      def copies(prefix: String):void
+        suffix = "!"
+        create do
+          puts "#{prefix} #{suffix}"
+        end
+      end
+      copies "hi"
+    EOF
+    class_names = classes.map(&:java_class).map(&:name)
+    assert !class_names.find { |c| c.include? 'Binding' },
+      "generated classes: #{class_names} shouldn't contain a binding."
+    assert_run_output("hi !\n", classes.first)
+  end
+
+  def test_capture_assigned_after_block_uses_binding
+    classes = compile(<<-'EOF')
+      def create(a: Runnable):void
+        a.run
+      end
+      def shares:void
+        copied = 1
+        shared = 1
+        r = lambda(Runnable) { puts "#{copied} #{shared}" }
+        shared = 2
+        create r
+      end
+      shares
+    EOF
+    class_names = classes.map(&:java_class).map(&:name)
+    assert class_names.find { |c| c.include? 'Binding' },
+      "generated classes: #{class_names} should contain a binding."
+    assert_run_output("1 2\n", classes.first)
+  end
+
 
 
   # nested nlr scopes
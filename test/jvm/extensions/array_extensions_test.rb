@@ -217,4 +217,35 @@ class ArrayExtensionsTest < Test::Unit::TestCase
     EOF
     assert_run_output("1,3,5,7,9\n", cls)
   end
+
+  def test_primitive_sum_min_max
+    cls, = compile(<<-EOF)
+      x = int[].new(5) do |i|
+        (i*7) % 5
+      end
+      puts x.sum
+      puts x.min
+      puts x.max
+      b = byte[].new(3) {|i| byte(100)}
+      puts b.sum
+      d = double[].new(4) {|i| i * 0.5}
+      puts d.sum
+      puts d.max
+    EOF
+    assert_run_output("10\n0\n4\n300\n3.0\n1.5\n", cls)
+  end
+
+  def test_count_map_bang_fill_copy
+    cls, = compile(<<-EOF)
+      x = long[].new(5) {|i| long(i)}
+      puts x.count {|v| v % 2 == 0}
+      x.map! {|v| v * v}
+      puts x.join(",")
+      y = x.copy(7)
+      puts y.join(",")
+      puts x.copy.fill(3).join(",")
+      puts x.join(",")
+    EOF
+    assert_run_output("3\n0,1,4,9,16\n0,1,4,9,16,0,0\n3,3,3,3,3\n0,1,4,9,16\n", cls)
+  end
 end
@@ -79,6 +79,87 @@ class EnumerableTest < Test::Unit::TestCase
     end
   end
 
+  def test_each_list_with_array_and_linked_lists
+    cls, = compile(<<-EOF)
+      import java.util.List
+      def foo(a:List)
+        a.each do |x|
+          next if "2".equals(x)
+          puts x
+        end
+      end
+    EOF
+
+    assert_output("1\n3\n1\n3\n") do
+      array_list = java.util.ArrayList.new
+      linked_list = java.util.LinkedList.new
+      ["1", "2", "3"].each do |x|
+        array_list << x
+        linked_list << x
+      end
+      cls.foo(array_list)
+      cls.foo(linked_list)
+    end
+  end
+
+  def test_each_arraylist_fails_fast_when_modified
+    cls, = compile(<<-EOF)
+      import java.util.ArrayList
+      list = ArrayList.new
+      list.add "a"
+      list.add "b"
+      list.each { |x| list.add x }
+    EOF
+    assert_raise_java(java.util.ConcurrentModificationException) do
+      cls.main nil
+    end
+  end
+
+  def test_each_copy_on_write_list_iterates_a_snapshot
+    cls, = compile(<<-EOF)
+      import java.util.concurrent.CopyOnWriteArrayList
+      list = CopyOnWriteArrayList.new
+      list.add "a"
+      list.add "b"
+      list.each { |x| list.add x; puts x }
+      puts list
+    EOF
+    assert_run_output("a\nb\n[a, b, a, b]\n", cls)
+  end
+
+  def test_each_arraylist_allows_removal_before_break
+    cls, = compile(<<-EOF)
+      import java.util.ArrayList
+      list = ArrayList.new
+      list.add "a"
+      list.add "b"
+      list.each do |x|
+        list.remove x
+        break
+      end
+      puts list
+    EOF
+    assert_run_output("[b]\n", cls)
+  end
+
+  def test_each_with_index_arraylist
+    cls, = compile(<<-EOF)
+      import java.util.ArrayList
+      def foo(a:ArrayList)
+        a.each_with_index do |x, i|
+          puts "\#{i}:\#{x}"
+        end
+      end
+    EOF
+
+    assert_output("0:a\n1:b\n") do
+      list = java.util.ArrayList.new
+      list << "a"
+      list << "b"
+      cls.foo(list)
+    end
+  end
+
   def test_each_int_arry
     cls, = compile(<<-EOF)
       def foo(a:int[])
@@ -431,6 +512,57 @@ class EnumerableTest < Test::Unit::TestCase
     end
   end
 
+  def test_lazy_chain_runs_in_one_pass
+    cls, = compile(<<-'EOF')
+      def foo
+        seen = []
+        list = [1, 2, 3, 4, 5]
+        x = list.lazy.select {|a:Integer| seen << a; a.intValue > 1}.map {|b:Integer| Integer.valueOf(b.intValue * 10)}.first
+        puts x
+        puts seen
+        puts list.lazy.map {|a:Integer| Integer.valueOf(a.intValue + 1)}.select {|b:Integer| b.intValue % 2 == 0}
+        puts list.lazy.map {|a:Integer| Integer.valueOf(a.intValue * 2)}.reduce {|m:Integer, b:Integer| Integer.valueOf(m.intValue + b.intValue)}
+        puts list.lazy.select {|a:Integer| a.intValue > 3}.any? {|b:Integer| b.intValue == 4}
+        puts list.lazy.map {|a:Integer| a}.all? {|b:Integer| b.intValue < 3}
+      end
+    EOF
+    assert_output("20\n[1, 2]\n[2, 4, 6]\n30\ntrue\nfalse\n") do
+      cls.foo
+    end
+  end
+
+  def test_lazy_chain_ending_in_a_call_that_does_not_fuse
+    cls, = compile(<<-'EOF')
+      def foo
+        list = [1, 2, 3, 4, 5]
+        puts list.lazy.map {|a:Integer| Integer.valueOf(a.intValue * 2)}.select {|b:Integer| b.intValue > 4}.size
+        list.lazy.select {|a:Integer| a.intValue > 3}.map {|b:Integer| Integer.valueOf(b.intValue + 1)}.each {|c| puts c}
+        puts list.lazy.map {|a:Integer| a}.map {|b:Integer| Integer.valueOf(b.intValue * 3)}.toString
+      end
+    EOF
+    assert_output("3\n5\n6\n[3, 6, 9, 12, 15]\n") do
+      cls.foo
+    end
+  end
+
+  def test_lazy_first_on_primitive_array
+    cls, = compile(<<-'EOF')
+      def foo
+        numbers = int[2]
+        numbers[0] = 4
+        numbers[1] = 5
+        puts numbers.lazy.first
+        puts numbers.lazy.select {|a:int| a > 4}.first
+        puts numbers.lazy.select {|a:int| a > 9}.first
+        puts numbers.lazy.map {|a:int| a * 2}.first
+      end
+    EOF
+
+    assert_output("4\n5\nnull\n8\n") do
+      cls.foo
+    end
+  end
+
   def test_reduce_with_string_array
     cls, = compile(<<-'EOF')
       def foo
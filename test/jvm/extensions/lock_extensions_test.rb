@@ -40,4 +40,66 @@ class LockExtensionsTest < Test::Unit::TestCase
     EOF
     assert_run_output("true\n", cls)
   end
-end
\ No newline at end of file
+
+  def test_read_write_lock_sections
+    cls, = compile(<<-EOF)
+      import java.util.concurrent.locks.ReentrantReadWriteLock
+      lock = ReentrantReadWriteLock.new
+      x = lock.read { puts lock.getReadLockCount; 1 }
+      lock.write { puts lock.isWriteLocked }
+      puts lock.isWriteLocked
+      puts x
+    EOF
+    assert_run_output("1\ntrue\nfalse\n1\n", cls)
+  end
+
+  def test_stamped_lock_optimistic_read_retries_after_write
+    cls, = compile(<<-EOF)
+      import java.util.concurrent.locks.StampedLock
+      lock = StampedLock.new
+      puts lock.optimistic_read { "fast" }
+      calls = 0
+      value = lock.optimistic_read do
+        calls += 1
+        Thread.new { lock.write { puts "writing" } }.start.join if calls == 1
+        calls
+      end
+      puts value
+      puts lock.isReadLocked
+    EOF
+    assert_run_output("fast\nwriting\n2\nfalse\n", cls)
+  end
+
+  def test_stamped_lock_optimistic_read_retries_after_torn_read_raises
+    cls, = compile(<<-EOF)
+      import java.util.concurrent.locks.StampedLock
+      lock = StampedLock.new
+      calls = 0
+      value = lock.optimistic_read do
+        calls += 1
+        if calls == 1
+          Thread.new { lock.write { puts "writing" } }.start.join
+          raise "torn read"
+        end
+        calls
+      end
+      puts value
+      puts lock.isReadLocked
+    EOF
+    assert_run_output("writing\n2\nfalse\n", cls)
+  end
+
+  def test_stamped_lock_optimistic_read_raises_when_read_was_consistent
+    cls, = compile(<<-EOF)
+      import java.util.concurrent.locks.StampedLock
+      lock = StampedLock.new
+      begin
+        lock.optimistic_read { raise "failed"; 1 }
+      rescue RuntimeException => e
+        puts e.getMessage
+      end
+      puts lock.isReadLocked
+    EOF
+    assert_run_output("failed\nfalse\n", cls)
+  end
+end
@@ -0,0 +1,75 @@
+# Copyright (c) 2016 The Mirah project authors. All Rights Reserved.
+# All contributing project authors may be found in the NOTICE file.
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#      http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+require 'test_helper'
+
+class ParallelExtensionsTest < Test::Unit::TestCase
+
+  def test_primitive_array
+    cls, = compile(<<-EOF)
+      x = int[].new(1000) {|i| i}
+      squares = x.pmap {|v| v * v}
+      puts squares[999]
+      puts squares.preduce {|a, b| a + b}
+      puts x.pselect {|v| v % 100 == 0}.join(",")
+      hits = java::util::concurrent::atomic::AtomicInteger.new
+      x.peach {|v| hits.addAndGet(v)}
+      puts hits.get
+    EOF
+    assert_run_output("998001\n332833500\n0,100,200,300,400,500,600,700,800,900\n499500\n", cls)
+  end
+
+  def test_collection_with_pool
+    cls, = compile(<<-EOF)
+      pool = java::util::concurrent::ForkJoinPool.new(3)
+      words = ["a", "bb", "ccc", "dddd"]
+      puts words.pmap(pool) {|w:String| w.toUpperCase}
+      puts words.pselect(pool) {|w:String| w.length > 2}
+      puts words.preduce(pool) {|a:String, b:String| a + b}
+      pool.shutdown
+    EOF
+    assert_run_output("[A, BB, CCC, DDDD]\n[ccc, dddd]\nabbcccdddd\n", cls)
+  end
+
+  def test_empty
+    cls, = compile(<<-EOF)
+      x = long[0]
+      puts x.pmap {|v| v + 1}.length
+      puts x.preduce {|a, b| a + b}
+    EOF
+    assert_run_output("0\n0\n", cls)
+  end
+
+  def test_block_arguments_shadowing_enclosing_locals
+    cls, = compile(<<-EOF)
+      def run
+        pool = java::util::concurrent::ForkJoinPool.new(4)
+        x = int[].new(100000) {|i| i}
+        v = -1
+        a = -2
+        b = -3
+        squares = x.pmap(pool) {|v| v * v}
+        puts squares[99999] == 99999 * 99999
+        puts x.pmap(pool) {|v| v + 1}[0]
+        puts x.preduce(pool) {|a, b| a + b}
+        puts x.pselect(pool) {|v| v % 10000 == 0}.length
+        puts "\#{v} \#{a} \#{b}"
+        pool.shutdown
+      end
+      run
+    EOF
+    assert_run_output("true\n1\n704982704\n10\n-1 -2 -3\n", cls)
+  end
+end
@@ -406,6 +406,150 @@ class JVMCompilerTest < Test::Unit::TestCase
     assert_equal [false, false, true, true, true], cls.foo(-1).to_a
   end
 
+  def test_case_switch
+    cls, = compile(<<-EOF)
+      def dense(a:int)
+        case a
+        when 1, 2
+          "low"
+        when 3
+          "three"
+        when 4
+          "four"
+        else
+          "other"
+        end
+      end
+      def sparse(a:int)
+        case a
+        when 1
+          "one"
+        when 1000, 100000
+          "big"
+        else
+          "other"
+        end
+      end
+      def chars(c:char)
+        case c
+        when ?a
+          "a"
+        when ?z
+          "z"
+        else
+          "other"
+        end
+      end
+      def strings(s:String)
+        case s
+        when "foo", "bar"
+          "foobar"
+        when "Aa", "BB"
+          "collision"
+        else
+          "other"
+        end
+      end
+      def chain(a:int, b:int)
+        case a
+        when b
+          "b"
+        else
+          "other"
+        end
+      end
+    EOF
+    assert_equal "low", cls.dense(2)
+    assert_equal "four", cls.dense(4)
+    assert_equal "other", cls.dense(5)
+    assert_equal "big", cls.sparse(100000)
+    assert_equal "other", cls.sparse(2)
+    assert_equal "z", cls.chars(?z.ord)
+    assert_equal "other", cls.chars(?b.ord)
+    assert_equal "foobar", cls.strings("bar")
+    assert_equal "collision", cls.strings("BB")
+    assert_equal "other", cls.strings("baz")
+    assert_equal "other", cls.strings(nil)
+    assert_equal "b", cls.chain(3, 3)
+    assert_equal "other", cls.chain(3, 4)
+  end
+
+  def test_nested_case_bodies_are_compiled_once
+    classes = compile(<<-EOF)
+      def run(r:Runnable):void
+        r.run
+      end
+      def nested(a:long, b:int):void
+        case a
+        when 1
+          case b
+          when 2
+            run { puts "one two" }
+          end
+        end
+      end
+    EOF
+    closures = classes.map(&:java_class).map(&:name).select { |c| c.include? 'Closure' }
+    assert_equal 1, closures.size, "generated closures: #{closures}"
+    assert_output("one two\n") { classes.first.nested(1, 2) }
+  end
+
+  def test_constant_folding
+    cls, = compile(<<-EOF)
+      def seconds; 60 * 60 * 24; end
+      def overflow; 2147483647 + 1; end
+      def big; 3000000000 * 2; end
+      def shifted; 1 << 33; end
+      def half; 1.0 / 2; end
+      def compared; 3 < 4; end
+      def greeting; "hello " + "world " + 42; end
+      def dead
+        if false
+          "then"
+        else
+          "else"
+        end
+      end
+      def never
+        x = 0
+        while false
+          x += 1
+        end
+        x
+      end
+      def divide; 1 / 0; end
+    EOF
+    assert_equal 86400, cls.seconds
+    assert_equal(-2147483648, cls.overflow)
+    assert_equal 6000000000, cls.big
+    assert_equal 2, cls.shifted
+    assert_equal 0.5, cls.half
+    assert_equal true, cls.compared
+    assert_equal "hello world 42", cls.greeting
+    assert_equal "else", cls.dead
+    assert_equal 0, cls.never
+    assert_raise_java(java.lang.ArithmeticException) { cls.divide }
+  end
+
+  def test_tailrec_self_calls_do_not_grow_the_stack
+    cls, = compile(<<-EOF)
+      tailrec def count(n:int, total:long):long
+        return total if n == 0
+        count(n - 1, total + n)
+      end
+      tailrec def swap(a:int, b:int, times:int):String
+        if times == 0
+          "\#{a} \#{b}"
+        else
+          swap(b, a, times - 1)
+        end
+      end
+    EOF
+    assert_equal 50000005000000, cls.count(10000000, 0)
+    assert_equal "1 2", cls.swap(1, 2, 1000000)
+    assert_equal "2 1", cls.swap(1, 2, 1000001)
+  end
+
   def test_unless_float
     cls, = compile(<<-EOF)
       def foo(a:float)
@@ -1334,6 +1478,39 @@ class JVMCompilerTest < Test::Unit::TestCase
     assert cls.matches
   end
 
+  def test_constant_regexp_is_cached
+    cls, = compile(<<-EOF)
+      def constant
+        /foo\\d+/
+      end
+      def interpolated(s:String)
+        /foo\#{s}/
+      end
+    EOF
+
+    assert_same cls.constant, cls.constant
+    assert_equal 'foo\\d+', cls.constant.to_s
+    assert_not_same cls.interpolated('a'), cls.interpolated('a')
+    assert_equal 'foob', cls.interpolated('b').to_s
+  end
+
+  def test_cached_regexp_is_final_and_ready_for_static_initializer
+    classes = compile(<<-EOF)
+      class RegexpUser
+        @@pattern = RegexpUser.pattern
+        def self.pattern
+          /a+/
+        end
+        def self.stored
+          @@pattern
+        end
+      end
+    EOF
+    cls = classes.find { |c| c.java_class.name == 'RegexpUser' }
+    assert cls.java_class.declared_field('$regex0').final?
+    assert_same cls.pattern, cls.stored
+  end
+
   def test_array_return_type
     cls, = compile(<<-EOF)
       def split
@@ -1462,6 +1639,48 @@ class JVMCompilerTest < Test::Unit::TestCase
     assert_equal(2, cls.foo(1))
   end
 
+  def test_string_interpolation_with_indy_concat
+    omit_if ENV_JAVA['java.specification.version'].start_with?('1.')
+
+    cls, = compile(<<-EOF, java_version: '9')
+      def foo(name:String, n:int, d:double, o:Object)
+        c = ?x
+        "Hello \#{name}, \#{n} \#{d} \#{c} \#{o}\u0001."
+      end
+    EOF
+
+    assert_equal("Hello Fred, 1 2.5 x null\u0001.", cls.foo("Fred", 1, 2.5, nil))
+  end
+
+  def test_string_interpolation_of_char_array
+    versions = [JVMCompiler::JVM_VERSION]
+    versions << '9' unless ENV_JAVA['java.specification.version'].start_with?('1.')
+    versions.each do |version|
+      cls, = compile(<<-EOF, java_version: version)
+        def foo(chars:char[], o:Object)
+          "<\#{chars}>\#{o}"
+        end
+      EOF
+
+      assert_equal("<ab>x", cls.foo("ab".to_java.toCharArray, "x"))
+    end
+  end
+
+  def test_compiling_against_classes_for_java_11
+    omit_if ENV_JAVA['java.specification.version'] =~ /^(1\.\d|9|10)$/
+
+    compile(<<-EOF, java_version: '11', name: 'Java11Greeter')
+      class Java11Greeter
+        def self.greet; "hi"; end
+      end
+    EOF
+    cls, = compile(<<-EOF, java_version: '11')
+      def foo; Java11Greeter.greet; end
+    EOF
+
+    assert_equal("hi", cls.foo)
+  end
+
   def test_string_interpolation_method_calls
     cls, = compile <<-CODE
       print "apples \#{'oranges'}".replace('apples', 'oranges')
@@ -1902,6 +2121,32 @@ class JVMCompilerTest < Test::Unit::TestCase
     assert_equal("Cannot find class Implements_Go", ex.message)
   end
 
+  def test_first_error_in_source_is_reported_first
+    ex = assert_raise Mirah::MirahError  do
+      compile(<<-EOF)
+        def first_method
+          second_method
+          Missing_First.new
+        end
+        def second_method
+          Missing_Second.new
+        end
+      EOF
+    end
+    assert_equal("Cannot find class Missing_First", ex.message)
+  end
+
+  def test_errors_in_unselected_alternatives_are_not_reported
+    # The vcall could also be a local or a constant, neither of which exist.
+    cls, = compile(<<-EOF)
+      def answer
+        42
+      end
+      puts answer
+    EOF
+    assert_run_output("42\n", cls)
+  end
+
   def test_bool_equality
     cls, = compile("puts true == false")
     assert_run_output("false\n", cls)
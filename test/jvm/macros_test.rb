@@ -472,6 +472,60 @@ class MacrosTest < Test::Unit::TestCase
     CODE
     assert_run_output("two\n", script)
   end
+
+  def test_macros_in_memory
+    script, _ = compile(<<-CODE, macros_in_memory: true)
+      class InlineThreeSayer
+        macro def say_three
+          quote do
+            puts "three"
+          end
+        end
+        def self.main(args: String[]): void
+          InlineThreeSayer.new.say_three
+        end
+      end
+    CODE
+    assert_run_output("three\n", script)
+  end
+
+  def test_batched_macros
+    script, _ = compile(<<-CODE, batch_macros: true)
+      class BatchedSayer
+        macro def say_five
+          quote { puts "five" }
+        end
+        macro def say_six
+          quote { puts "six" }
+        end
+        macro def self.say_seven
+          quote { puts "seven" }
+        end
+        def self.main(args: String[]): void
+          BatchedSayer.new.say_five
+          BatchedSayer.new.say_six
+          say_seven
+        end
+      end
+    CODE
+    assert_run_output("five\nsix\nseven\n", script)
+  end
+
+  def test_separate_compilation_flushed_in_memory_macros
+    compile(<<-CODE, separate_macro_dest: true, macros_in_memory: true, flush_macros: true)
+      class InlineFourSayer
+        macro def say_four
+          quote do
+            puts "four"
+          end
+        end
+      end
+    CODE
+    script, _ = compile(<<-CODE, separate_macro_dest: true)
+      InlineFourSayer.new.say_four
+    CODE
+    assert_run_output("four\n", script)
+  end
   
   def test_import_star_with_macro_def
     cls1, cls2 = compile([<<-EOF1, <<-EOF2])
@@ -743,5 +797,21 @@ class MacrosTest < Test::Unit::TestCase
 
     assert_run_output("1\n1\n2\n1\n2\n3\n1\n2\ntest\n", cls)
   end
-end
 
+  def test_macro_expanded_repeatedly_gets_fresh_template
+    cls, = compile(<<-CODE)
+      macro def twice(value:Node)
+        quote do
+          puts `value`
+          puts `value`
+        end
+      end
+
+      twice 1
+      twice "a"
+      twice 2.5
+    CODE
+
+    assert_run_output("1\n1\na\na\n2.5\n2.5\n", cls)
+  end
+end
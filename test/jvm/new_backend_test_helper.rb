@@ -70,6 +70,18 @@ module JVMCompiler
       args += ["--macro-dest", macro_dest,
                "--macroclasspath", Mirah::Env.encode_paths([macro_dest])]
     end
+    if options[:macros_in_memory]
+      args << "--macros-in-memory"
+    end
+    if options[:flush_macros]
+      args << "--flush-macros"
+    end
+    if options[:batch_macros]
+      args << "--batch-macros"
+    end
+    if options[:hoist_constant_varargs]
+      args << "--hoist-constant-varargs"
+    end
 
     cmd = build_command name, code
     compile_or_raise cmd, args
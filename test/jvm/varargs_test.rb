@@ -52,4 +52,30 @@ class VarargsTest < Test::Unit::TestCase
     assert_run_output("rocking with an array\n", cls)
   end
 
+  def test_empty_varargs_arrays_are_shared
+    cls, = compile(<<-EOF)
+      def a; String.format("no args"); end
+      def b; String.format("none either"); end
+    EOF
+    fields = cls.java_class.declared_fields.map(&:name)
+    assert_equal ['$empty0'], fields
+    field = cls.java_class.declared_field('$empty0')
+    assert field.static? && field.final?
+    assert_equal "no args", cls.a
+    assert_equal "none either", cls.b
+  end
+
+  def test_hoisted_constant_varargs
+    cls, = compile(<<-EOF, hoist_constant_varargs: true)
+      def a(x:String); String.format("%s %s %s", "a", x, "c"); end
+      def b; String.format("%s %d", "b", 2); end
+    EOF
+    fields = cls.java_class.declared_fields.map(&:name)
+    assert_equal ['$varargs0'], fields
+    assert cls.java_class.declared_field('$varargs0').final?
+    assert_equal "a x c", cls.a("x")
+    assert_equal "b 2", cls.b
+    assert_equal "b 2", cls.b
+  end
+
 end
@@ -294,6 +294,19 @@ class MirrorsTest < BaseMirrorsTest
     assert_not_equal(0, constructor.flags & Opcodes.ACC_PUBLIC)
   end
 
+  def test_builtin_extensions_loaded_with_members
+    map = @types.loadNamedType('java.util.Map').resolve
+    macros = map.getDeclaredMethods('empty?').select {|m| m.is_a?(Java::OrgMirahJvmMirrors::MacroMember)}
+    assert_equal(1, macros.size)
+  end
+
+  def test_builtin_extensions_loaded_for_boolean
+    @types.register_class_extension('boolean', Java::OrgMirahBuiltins::IntExtensions.java_class)
+    bool = @types.getBooleanType.resolve
+    macros = bool.getDeclaredMethods('times').select {|m| m.is_a?(Java::OrgMirahJvmMirrors::MacroMember)}
+    assert_equal(1, macros.size)
+  end
+
   def test_get
     type = @types.get(@scope, typeref('void'))
     assert_descriptor('V', type)